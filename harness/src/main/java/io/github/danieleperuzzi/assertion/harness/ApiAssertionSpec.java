@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.harness;
+
+import io.github.danieleperuzzi.assertion.api.ApiAssertion;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Builds the {@link ApiAssertion} to be performed on every response collected by the {@link LoadHarness}.
+ * The spec is defined once and applied to each response, e.g.
+ *
+ * <pre>{@code
+ * ApiAssertionSpec spec = response -> new ApiAssertion<>(response)
+ *      .isSuccessful(r -> r.statusCode() == 200)
+ *      .onSuccess(r -> assertEquals("OK", r.body()))
+ *      .onFailure(r -> assertEquals("KO", r.body()));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ApiAssertionSpec {
+
+    /**
+     * Creates the API assertion for the given response
+     *
+     * @param response      the HTTP response to be tested
+     * @return              the API assertion ready to be tested
+     * @throws Exception    exception thrown while defining the API assertion
+     */
+    ApiAssertion<HttpResponse<String>> apply(HttpResponse<String> response) throws Exception;
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.harness;
+
+import io.github.danieleperuzzi.assertion.api.ApiAssertion;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class fires requests at an HTTP endpoint and checks every response with an {@link ApiAssertion}, so that
+ * the same specs used in unit tests can be used as the checks of a load test.
+ *
+ * Requests can be fired in two ways:
+ *
+ * <ul>
+ *     <li>at a fixed concurrency: a given number of workers each sends a request as soon as the previous one completes</li>
+ *     <li>at a fixed arrival rate: requests are started at regular intervals no matter how long the previous ones take,
+ *     latency is measured from the scheduled start so that a slow server doesn't hide its own queueing time</li>
+ * </ul>
+ *
+ * The result of the application of this harness would be
+ *
+ * <pre>{@code
+ * LoadReport report = new LoadHarness(URI.create("http://localhost:8080/status"))
+ *      .spec(response -> new ApiAssertion<>(response)
+ *              .isSuccessful(r -> r.statusCode() == 200)
+ *              .onSuccess(r -> testOk(r))
+ *              .onFailure(r -> testKo(r)))
+ *      .concurrency(16)
+ *      .requests(10_000)
+ *      .run();
+ * }</pre>
+ *
+ * When no executor is given requests are performed on virtual threads if the running JVM supports them, otherwise
+ * on a cached thread pool.
+ */
+public class LoadHarness {
+
+    private final HttpRequest request;
+    private HttpClient client;
+    private ExecutorService executor;
+    private ApiAssertionSpec spec;
+    private int concurrency;
+    private double arrivalRate;
+    private int requests;
+
+    /**
+     * Creates a new LoadHarness that sends GET requests to the given target
+     *
+     * @param target    the URI of the endpoint to be tested
+     */
+    public LoadHarness(URI target) {
+        this(HttpRequest.newBuilder(target).GET().build());
+    }
+
+    /**
+     * Creates a new LoadHarness that sends the given request over and over
+     *
+     * @param request   the request to be sent to the endpoint to be tested
+     */
+    public LoadHarness(HttpRequest request) {
+        this.request = request;
+        this.client = null;
+        this.executor = null;
+        this.spec = null;
+        this.concurrency = 0;
+        this.arrivalRate = 0;
+        this.requests = 0;
+    }
+
+    /**
+     * Defines the API assertion to be performed on every response
+     *
+     * @param s             the spec that builds the API assertion for each response
+     * @return              this class instance to chain more actions
+     * @throws Exception    exception thrown in case we already defined one spec
+     */
+    public LoadHarness spec(ApiAssertionSpec s) throws Exception {
+        if (!Objects.isNull(spec)) {
+            throw new Exception("Define only one spec");
+        }
+
+        spec = s;
+
+        return this;
+    }
+
+    /**
+     * Fires requests at a fixed concurrency
+     *
+     * @param workers       the number of requests in flight at the same time
+     * @return              this class instance to chain more actions
+     * @throws Exception    exception thrown in case the number of workers isn't positive
+     */
+    public LoadHarness concurrency(int workers) throws Exception {
+        if (workers <= 0) {
+            throw new Exception("Concurrency must be positive");
+        }
+
+        concurrency = workers;
+
+        return this;
+    }
+
+    /**
+     * Fires requests at a fixed arrival rate
+     *
+     * @param requestsPerSecond     the number of requests started every second
+     * @return                      this class instance to chain more actions
+     * @throws Exception            exception thrown in case the arrival rate isn't positive
+     */
+    public LoadHarness arrivalRate(double requestsPerSecond) throws Exception {
+        if (requestsPerSecond <= 0) {
+            throw new Exception("Arrival rate must be positive");
+        }
+
+        arrivalRate = requestsPerSecond;
+
+        return this;
+    }
+
+    /**
+     * Defines how many requests are fired during the run
+     *
+     * @param total         the total number of requests
+     * @return              this class instance to chain more actions
+     * @throws Exception    exception thrown in case the number of requests isn't positive
+     */
+    public LoadHarness requests(int total) throws Exception {
+        if (total <= 0) {
+            throw new Exception("Requests must be positive");
+        }
+
+        requests = total;
+
+        return this;
+    }
+
+    /**
+     * Defines the HTTP client used to send the requests. The client is owned by the caller and isn't closed at the end
+     * of the run. When no client is given the harness creates one for each run and releases it at the end of the run,
+     * on releases before Java 21 the client can't be closed so it's freed once garbage collected
+     *
+     * @param c     the HTTP client
+     * @return      this class instance to chain more actions
+     */
+    public LoadHarness client(HttpClient c) {
+        client = c;
+
+        return this;
+    }
+
+    /**
+     * Defines the executor the requests are performed on. The executor isn't shut down at the end of the run, but if
+     * the run fails or is interrupted the requests still pending on it are cancelled
+     *
+     * @param e     the executor
+     * @return      this class instance to chain more actions
+     */
+    public LoadHarness executor(ExecutorService e) {
+        executor = e;
+
+        return this;
+    }
+
+    /**
+     * Perform the load test
+     *
+     * @return              the report of the run
+     * @throws Exception    exceptions are thrown in these cases:
+     *
+     *                      <ul>
+     *                          <li>the spec isn't defined</li>
+     *                          <li>the number of requests isn't defined</li>
+     *                          <li>neither or both concurrency and arrival rate are defined</li>
+     *                          <li>the run is interrupted, pending requests are cancelled</li>
+     *                      </ul>
+     */
+    public LoadReport run() throws Exception {
+        Optional.ofNullable(spec)
+                .orElseThrow(() -> new Exception("Define at least one spec"));
+
+        if (requests == 0) {
+            throw new Exception("Define the number of requests");
+        }
+
+        if (concurrency == 0 && arrivalRate == 0) {
+            throw new Exception("Define concurrency or arrival rate");
+        }
+
+        if (concurrency > 0 && arrivalRate > 0) {
+            throw new Exception("Define only concurrency or arrival rate");
+        }
+
+        HttpClient httpClient = Optional.ofNullable(client).orElseGet(HttpClient::newHttpClient);
+        ExecutorService runExecutor = Optional.ofNullable(executor).orElseGet(LoadHarness::defaultExecutor);
+
+        Run run = new Run(httpClient, new long[requests], new AtomicInteger(0), new AtomicLongArray(Outcome.values().length));
+
+        List<Future<?>> futures = new ArrayList<>();
+        boolean completed = false;
+        long start = System.nanoTime();
+
+        try {
+            if (concurrency > 0) {
+                runConcurrency(run, runExecutor, futures);
+            } else {
+                runArrivalRate(run, runExecutor, start, futures);
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            completed = true;
+        } finally {
+            // no-op for completed requests, stops the pending ones when the run fails or is interrupted
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+
+            if (Objects.isNull(executor)) {
+                runExecutor.shutdownNow();
+            }
+
+            if (Objects.isNull(client)) {
+                release(httpClient, !completed);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        Map<Outcome, Long> outcomeCount = new EnumMap<>(Outcome.class);
+
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCount.put(outcome, run.outcomes.get(outcome.ordinal()));
+        }
+
+        return new LoadReport(requests, Arrays.copyOf(run.latencies, run.responses.get()), elapsed, outcomeCount);
+    }
+
+    private void runConcurrency(Run run, ExecutorService runExecutor, List<Future<?>> futures) {
+        AtomicInteger next = new AtomicInteger(0);
+
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(runExecutor.submit(() -> {
+                while (!Thread.currentThread().isInterrupted() && next.getAndIncrement() < requests) {
+                    run.perform(System.nanoTime());
+                }
+            }));
+        }
+    }
+
+    private void runArrivalRate(Run run, ExecutorService runExecutor, long start, List<Future<?>> futures)
+            throws InterruptedException {
+        double intervalNanos = 1_000_000_000d / arrivalRate;
+
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + (long) (i * intervalNanos);
+            long wait;
+
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+
+                // parkNanos returns at once when interrupted, stop dispatching instead of spinning
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            futures.add(runExecutor.submit(() -> run.perform(scheduled)));
+        }
+    }
+
+    private static ExecutorService defaultExecutor() {
+        try {
+            // virtual threads are available since Java 21, the harness is compiled against older releases
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static void release(HttpClient httpClient, boolean abort) {
+        try {
+            // HttpClient can be shut down since Java 21, the harness is compiled against older releases
+            HttpClient.class
+                    .getMethod(abort ? "shutdownNow" : "close")
+                    .invoke(httpClient);
+        } catch (ReflectiveOperationException e) {
+            // earlier releases free the client once it's garbage collected
+        }
+    }
+
+    private class Run {
+
+        private final HttpClient httpClient;
+        private final long[] latencies;
+        private final AtomicInteger responses;
+        private final AtomicLongArray outcomes;
+
+        /**
+         * @param httpClient    the HTTP client used to send the requests
+         * @param latencies     the latencies of the requests that received a response, filled up to responses
+         * @param responses     the number of requests that received a response
+         * @param outcomes      the number of requests for each outcome, indexed by ordinal
+         */
+        private Run(HttpClient httpClient, long[] latencies, AtomicInteger responses, AtomicLongArray outcomes) {
+            this.httpClient = httpClient;
+            this.latencies = latencies;
+            this.responses = responses;
+            this.outcomes = outcomes;
+        }
+
+        private void perform(long scheduled) {
+            HttpResponse<String> response;
+
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcomes.incrementAndGet(Outcome.ERROR.ordinal());
+                return;
+            } catch (Exception e) {
+                outcomes.incrementAndGet(Outcome.ERROR.ordinal());
+                return;
+            }
+
+            latencies[responses.getAndIncrement()] = System.nanoTime() - scheduled;
+            outcomes.incrementAndGet(check(response).ordinal());
+        }
+
+        private Outcome check(HttpResponse<String> response) {
+            try {
+                ApiAssertion<HttpResponse<String>> assertion = spec.apply(response);
+                assertion.test();
+
+                return assertion.isSuccessfulResponse() ? Outcome.SUCCESS : Outcome.FAILURE;
+            } catch (AssertionError e) {
+                return Outcome.ASSERTION_FAILED;
+            } catch (Exception e) {
+                return Outcome.SPEC_ERROR;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.harness;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The result of a {@link LoadHarness} run: throughput, latency percentiles and the outcome of every request
+ */
+public class LoadReport {
+
+    private final int requests;
+    private final long[] sortedLatencies;
+    private final long elapsedNanos;
+    private final Map<Outcome, Long> outcomes;
+
+    /**
+     * @param requests      the number of performed requests
+     * @param latencies     the latencies of the requests that received a response
+     * @param elapsedNanos  the wall clock time spent to perform all the requests
+     * @param outcomes      the number of requests for each outcome
+     */
+    LoadReport(int requests, long[] latencies, long elapsedNanos, Map<Outcome, Long> outcomes) {
+        this.requests = requests;
+        this.sortedLatencies = latencies.clone();
+        this.elapsedNanos = elapsedNanos;
+        this.outcomes = new EnumMap<>(outcomes);
+
+        Arrays.sort(sortedLatencies);
+    }
+
+    /**
+     * @return  the number of performed requests
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return  the wall clock time spent to perform all the requests
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * @return  the number of requests performed per second
+     */
+    public double getThroughput() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+
+        return requests * 1_000_000_000d / elapsedNanos;
+    }
+
+    /**
+     * Computes the latency percentile using the nearest rank method. Only requests that received a response are
+     * taken into account, so that fast failures such as refused connections don't make the target look fast
+     *
+     * @param percentile    the percentile to compute, between 0 and 100
+     * @return              the latency below which the given percentage of responses falls, zero if no response
+     *                      has been received
+     */
+    public Duration getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        if (sortedLatencies.length == 0) {
+            return Duration.ZERO;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+
+        return Duration.ofNanos(sortedLatencies[Math.max(rank - 1, 0)]);
+    }
+
+    /**
+     * @param outcome   the outcome to look for
+     * @return          the number of requests that ended with the given outcome
+     */
+    public long getCount(Outcome outcome) {
+        return outcomes.getOrDefault(outcome, 0L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d elapsed=%dms throughput=%.1f/s p50=%dus p90=%dus p99=%dus max=%dus %s",
+                getRequests(),
+                getElapsed().toMillis(),
+                getThroughput(),
+                getLatencyPercentile(50).toNanos() / 1000,
+                getLatencyPercentile(90).toNanos() / 1000,
+                getLatencyPercentile(99).toNanos() / 1000,
+                getLatencyPercentile(100).toNanos() / 1000,
+                outcomes);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.harness;
+
+/**
+ * The outcome of a single request performed by the {@link LoadHarness}
+ */
+public enum Outcome {
+
+    /**
+     * The response is successful and its assertions passed
+     */
+    SUCCESS,
+
+    /**
+     * The response is failure and its assertions passed
+     */
+    FAILURE,
+
+    /**
+     * The assertions performed on the response failed
+     */
+    ASSERTION_FAILED,
+
+    /**
+     * The spec threw an exception other than an assertion error, e.g. while reading the response body or because
+     * the API assertion isn't well defined
+     */
+    SPEC_ERROR,
+
+    /**
+     * No response has been received. Latencies of these requests aren't part of the latency percentiles
+     */
+    ERROR
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.harness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.danieleperuzzi.assertion.api.ApiAssertion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadHarnessTest {
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+    private static URI okUri;
+    private static URI koUri;
+    private static URI countUri;
+    private static AtomicInteger counted;
+
+    @BeforeAll
+    public static void staticSetUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(8);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, "OK"));
+        server.createContext("/ko", exchange -> respond(exchange, 400, "KO"));
+        server.createContext("/count", exchange -> {
+            counted.incrementAndGet();
+
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange, 200, "OK");
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        String base = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        okUri = URI.create(base + "/ok");
+        koUri = URI.create(base + "/ko");
+        countUri = URI.create(base + "/count");
+        counted = new AtomicInteger(0);
+    }
+
+    @AfterAll
+    public static void staticTearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static ApiAssertionSpec statusSpec() {
+        return response -> new ApiAssertion<>(response)
+                .isSuccessful(r -> r.statusCode() == 200)
+                .onSuccess(r -> assertEquals("OK", r.body()))
+                .onFailure(r -> assertEquals("KO", r.body()));
+    }
+
+    @Test
+    @DisplayName("define spec exception")
+    public void defineSpecException() {
+        Exception exception = assertThrows(Exception.class, () -> {
+            new LoadHarness(okUri)
+                    .concurrency(1)
+                    .requests(1)
+                    .run();
+        });
+
+        assertEquals("Define at least one spec", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("define only one spec exception")
+    public void defineOnlyOneSpecException() {
+        Exception exception = assertThrows(Exception.class, () -> {
+            new LoadHarness(okUri)
+                    .spec(statusSpec())
+                    .spec(statusSpec());
+        });
+
+        assertEquals("Define only one spec", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("define concurrency or arrival rate exception")
+    public void defineConcurrencyOrArrivalRateException() {
+        Exception exception = assertThrows(Exception.class, () -> {
+            new LoadHarness(okUri)
+                    .spec(statusSpec())
+                    .requests(1)
+                    .run();
+        });
+
+        assertEquals("Define concurrency or arrival rate", exception.getMessage());
+
+        exception = assertThrows(Exception.class, () -> {
+            new LoadHarness(okUri)
+                    .spec(statusSpec())
+                    .concurrency(1)
+                    .arrivalRate(10)
+                    .requests(1)
+                    .run();
+        });
+
+        assertEquals("Define only concurrency or arrival rate", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("check concurrency on success")
+    public void checkConcurrencyOnSuccess() throws Exception {
+        LoadReport report = new LoadHarness(okUri)
+                .spec(statusSpec())
+                .concurrency(4)
+                .requests(50)
+                .run();
+
+        assertEquals(50, report.getRequests());
+        assertEquals(50, report.getCount(Outcome.SUCCESS));
+        assertEquals(0, report.getCount(Outcome.FAILURE));
+        assertEquals(0, report.getCount(Outcome.ASSERTION_FAILED));
+        assertEquals(0, report.getCount(Outcome.ERROR));
+        assertTrue(report.getThroughput() > 0);
+        assertTrue(report.getLatencyPercentile(50).compareTo(report.getLatencyPercentile(99)) <= 0);
+        assertTrue(report.getLatencyPercentile(99).compareTo(report.getLatencyPercentile(100)) <= 0);
+    }
+
+    @Test
+    @DisplayName("check concurrency on failure")
+    public void checkConcurrencyOnFailure() throws Exception {
+        LoadReport report = new LoadHarness(koUri)
+                .spec(statusSpec())
+                .concurrency(4)
+                .requests(20)
+                .run();
+
+        assertEquals(0, report.getCount(Outcome.SUCCESS));
+        assertEquals(20, report.getCount(Outcome.FAILURE));
+    }
+
+    @Test
+    @DisplayName("check assertion failed")
+    public void checkAssertionFailed() throws Exception {
+        LoadReport report = new LoadHarness(okUri)
+                .spec(response -> new ApiAssertion<>(response)
+                        .isSuccessful(r -> r.statusCode() == 200)
+                        .onSuccess(r -> assertEquals("KO", r.body())))
+                .concurrency(2)
+                .requests(10)
+                .run();
+
+        assertEquals(0, report.getCount(Outcome.SUCCESS));
+        assertEquals(10, report.getCount(Outcome.ASSERTION_FAILED));
+    }
+
+    @Test
+    @DisplayName("check spec error")
+    public void checkSpecError() throws Exception {
+        LoadReport report = new LoadHarness(okUri)
+                .spec(response -> new ApiAssertion<>(response))
+                .concurrency(2)
+                .requests(10)
+                .run();
+
+        assertEquals(10, report.getCount(Outcome.SPEC_ERROR));
+        assertEquals(0, report.getCount(Outcome.ERROR));
+
+        report = new LoadHarness(okUri)
+                .spec(response -> new ApiAssertion<>(response)
+                        .isSuccessful(r -> r.statusCode() == 200)
+                        .onSuccess(r -> ((String) null).length()))
+                .concurrency(2)
+                .requests(10)
+                .run();
+
+        assertEquals(10, report.getCount(Outcome.SPEC_ERROR));
+        assertEquals(0, report.getCount(Outcome.ERROR));
+    }
+
+    @Test
+    @DisplayName("check error")
+    public void checkError() throws Exception {
+        int closedPort;
+
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+
+        URI closedUri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + closedPort + "/ok");
+
+        LoadReport report = new LoadHarness(closedUri)
+                .spec(statusSpec())
+                .concurrency(2)
+                .requests(10)
+                .run();
+
+        assertEquals(10, report.getRequests());
+        assertEquals(10, report.getCount(Outcome.ERROR));
+        assertEquals(Duration.ZERO, report.getLatencyPercentile(50));
+        assertEquals(Duration.ZERO, report.getLatencyPercentile(100));
+    }
+
+    @Test
+    @DisplayName("check arrival rate")
+    public void checkArrivalRate() throws Exception {
+        LoadReport report = new LoadHarness(okUri)
+                .spec(statusSpec())
+                .arrivalRate(200)
+                .requests(40)
+                .run();
+
+        assertEquals(40, report.getCount(Outcome.SUCCESS));
+        // 40 requests at 200 per second are scheduled over at least 195ms
+        assertTrue(report.getElapsed().compareTo(Duration.ofMillis(195)) >= 0);
+    }
+
+    @Test
+    @DisplayName("check arrival rate latency includes queueing delay")
+    public void checkArrivalRateQueueingDelay() throws Exception {
+        ExecutorService harnessExecutor = Executors.newSingleThreadExecutor();
+        HttpServer slowServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        slowServer.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange, 200, "OK");
+        });
+        slowServer.setExecutor(serverExecutor);
+        slowServer.start();
+
+        try {
+            String base = "http://" + slowServer.getAddress().getHostString() + ":" + slowServer.getAddress().getPort();
+
+            LoadReport report = new LoadHarness(URI.create(base + "/slow"))
+                    .spec(statusSpec())
+                    .executor(harnessExecutor)
+                    .arrivalRate(100)
+                    .requests(10)
+                    .run();
+
+            assertEquals(10, report.getCount(Outcome.SUCCESS));
+            // one request every 10ms performed one at a time in 50ms: the last one is scheduled at 90ms but sent
+            // only after the 9 before it, so measured from its scheduled start it takes at least 500 - 90 = 410ms
+            assertTrue(report.getLatencyPercentile(100).compareTo(Duration.ofMillis(400)) >= 0);
+        } finally {
+            slowServer.stop(0);
+            harnessExecutor.shutdownNow();
+        }
+    }
+
+    private static Thread runInBackground(LoadHarness harness, AtomicReference<Exception> failure) {
+        Thread thread = new Thread(() -> {
+            try {
+                harness.run();
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        thread.start();
+
+        return thread;
+    }
+
+    @Test
+    @DisplayName("check interrupted arrival rate stops dispatching")
+    public void checkInterruptedArrivalRate() throws Exception {
+        counted.set(0);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread thread = runInBackground(new LoadHarness(countUri)
+                .spec(statusSpec())
+                .arrivalRate(2)
+                .requests(8), failure);
+
+        Thread.sleep(700);
+        long interrupted = System.nanoTime();
+        thread.interrupt();
+        thread.join(5000);
+
+        assertFalse(thread.isAlive());
+        assertTrue(failure.get() instanceof InterruptedException);
+        // requests are scheduled at 0, 500, 1000... so only the first two have been sent
+        assertEquals(2, counted.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - interrupted).compareTo(Duration.ofMillis(1000)) < 0);
+    }
+
+    @Test
+    @DisplayName("check interrupted run cancels requests on caller executor")
+    public void checkInterruptedRunCancelsRequests() throws Exception {
+        counted.set(0);
+        ExecutorService harnessExecutor = Executors.newFixedThreadPool(2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try {
+            Thread thread = runInBackground(new LoadHarness(countUri)
+                    .spec(statusSpec())
+                    .executor(harnessExecutor)
+                    .concurrency(2)
+                    .requests(1000), failure);
+
+            Thread.sleep(200);
+            thread.interrupt();
+            thread.join(5000);
+
+            assertFalse(thread.isAlive());
+            assertTrue(failure.get() instanceof InterruptedException);
+
+            Thread.sleep(200);
+            int afterRun = counted.get();
+            Thread.sleep(300);
+
+            assertEquals(afterRun, counted.get());
+            assertTrue(afterRun < 1000);
+        } finally {
+            harnessExecutor.shutdownNow();
+        }
+    }
+}
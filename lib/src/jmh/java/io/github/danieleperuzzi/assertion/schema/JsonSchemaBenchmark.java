@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the compiled {@link JsonSchema} with a naive validator that interprets the schema on every call, and the
+ * matcher allocated by each pattern check with a matcher reused through a thread local
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSchemaBenchmark {
+
+    private Map<String, Object> schema;
+    private JsonSchema compiled;
+    private Map<String, Object> body;
+    private Pattern pattern;
+    private ThreadLocal<Matcher> matcher;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        schema = object(
+                "type", "object",
+                "required", Arrays.asList("status", "message", "items"),
+                "properties", object(
+                        "status", object("type", "string", "enum", Arrays.asList("OK", "KO")),
+                        "message", object("type", "string", "minLength", 1),
+                        "items", object("type", "array", "items", object(
+                                "type", "object",
+                                "required", Arrays.asList("id", "price"),
+                                "properties", object(
+                                        "id", object("type", "integer", "minimum", 1),
+                                        "price", object("type", "number", "minimum", 0))))));
+
+        compiled = JsonSchema.compile(schema);
+
+        Object[] items = new Object[20];
+
+        for (int i = 0; i < items.length; i++) {
+            items[i] = object("id", i + 1, "price", i * 1.5);
+        }
+
+        body = object("status", "OK", "message", "response is successful", "items", Arrays.asList(items));
+
+        pattern = Pattern.compile("^[A-Z]+-[0-9]{6}$");
+        matcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        code = "ORDER-000123";
+    }
+
+    private static Map<String, Object> object(Object... keyValues) {
+        Map<String, Object> object = new LinkedHashMap<>();
+
+        for (int i = 0; i < keyValues.length; i += 2) {
+            object.put((String) keyValues[i], keyValues[i + 1]);
+        }
+
+        return object;
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return compiled.isValid(body);
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        return interpret(schema, body);
+    }
+
+    @Benchmark
+    public boolean compileEveryTime() {
+        return SchemaCompiler.compile(schema).isValid(body);
+    }
+
+    @Benchmark
+    public boolean patternNewMatcher() {
+        return pattern.matcher(code).find();
+    }
+
+    @Benchmark
+    public boolean patternThreadLocalMatcher() {
+        Matcher m = matcher.get().reset(code);
+        boolean found = m.find();
+        m.reset("");
+
+        return found;
+    }
+
+    /**
+     * Naive validator that looks up every keyword of the schema on each call, limited to the keywords used above
+     */
+    private static boolean interpret(Map<?, ?> schema, Object value) {
+        Object type = schema.get("type");
+
+        if ("object".equals(type) && !(value instanceof Map)) {
+            return false;
+        }
+
+        if ("array".equals(type) && !(value instanceof List)) {
+            return false;
+        }
+
+        if ("string".equals(type) && !(value instanceof String)) {
+            return false;
+        }
+
+        if ("number".equals(type) && !(value instanceof Number)) {
+            return false;
+        }
+
+        if ("integer".equals(type) && !(value instanceof Integer || value instanceof Long)) {
+            return false;
+        }
+
+        if (schema.containsKey("enum") && !((List<?>) schema.get("enum")).contains(value)) {
+            return false;
+        }
+
+        if (schema.containsKey("minLength") && ((String) value).length() < ((Number) schema.get("minLength")).intValue()) {
+            return false;
+        }
+
+        if (schema.containsKey("minimum") && ((Number) value).doubleValue() < ((Number) schema.get("minimum")).doubleValue()) {
+            return false;
+        }
+
+        if (value instanceof Map) {
+            Map<?, ?> object = (Map<?, ?>) value;
+
+            if (schema.containsKey("required")) {
+                for (Object name : (List<?>) schema.get("required")) {
+                    if (!object.containsKey(name)) {
+                        return false;
+                    }
+                }
+            }
+
+            if (schema.containsKey("properties")) {
+                for (Map.Entry<?, ?> property : ((Map<?, ?>) schema.get("properties")).entrySet()) {
+                    if (object.containsKey(property.getKey())
+                            && !interpret((Map<?, ?>) property.getValue(), object.get(property.getKey()))) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        if (value instanceof List && schema.containsKey("items")) {
+            for (Object item : (List<?>) value) {
+                if (!interpret((Map<?, ?>) schema.get("items"), item)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
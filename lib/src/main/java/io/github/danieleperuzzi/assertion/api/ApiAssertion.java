@@ -16,7 +16,10 @@
 
 package io.github.danieleperuzzi.assertion.api;
 
+import io.github.danieleperuzzi.assertion.schema.JsonSchema;
+
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Consumer;
 
@@ -92,6 +95,18 @@ public class ApiAssertion<R> {
         return this;
     }
 
+    /**
+     * Defines the JSON schema the body must satisfy when the API response to be tested is a successful response
+     *
+     * @param body          the function that extracts the parsed JSON body from the API response
+     * @param schema        the compiled JSON schema the body must satisfy
+     * @return              this class instance to chain more actions
+     * @throws Exception    exception thrown in case we already defined one onSuccess assertion
+     */
+    public ApiAssertion<R> onSuccess(Function<R, ?> body, JsonSchema schema) throws Exception {
+        return onSuccess(schema.assertion(body));
+    }
+
     /**
      * Defines the assertions to be performed when the API response to be tested is a failure response
      *
@@ -123,6 +138,44 @@ public class ApiAssertion<R> {
         return this;
     }
 
+    /**
+     * Defines the JSON schema the body must satisfy when the API response to be tested is a failure response
+     *
+     * @param body          the function that extracts the parsed JSON body from the API response
+     * @param schema        the compiled JSON schema the body must satisfy
+     * @return              this class instance to chain more actions
+     * @throws Exception    exception thrown in case we already defined one onFailure assertion
+     */
+    public ApiAssertion<R> onFailure(Function<R, ?> body, JsonSchema schema) throws Exception {
+        return onFailure(schema.assertion(body));
+    }
+
+    /**
+     * Defines the JSON schema the body must satisfy for a specific error case
+     *
+     * @param p         the predicate that checks if the current schema is the right one for this specific error case
+     * @param body      the function that extracts the parsed JSON body from the API response
+     * @param schema    the compiled JSON schema the body must satisfy
+     * @return          this class instance to chain more actions
+     */
+    public ApiAssertion<R> onFailure(Predicate<R> p, Function<R, ?> body, JsonSchema schema) {
+        return onFailure(p, schema.assertion(body));
+    }
+
+    /**
+     * Checks whenever the API response to be tested is a successful response according to the defined
+     * isSuccessful predicate. Useful to know which branch has been taken by {@link #test()}
+     *
+     * @return              true if the API response is a successful response, false otherwise
+     * @throws Exception    exception thrown in case the isSuccessful predicate isn't defined
+     */
+    public boolean isSuccessfulResponse() throws Exception {
+        Optional.ofNullable(isSuccessfulPredicate)
+                .orElseThrow(() -> new Exception("Define at least API predicate"));
+
+        return isSuccessfulPredicate.test(response);
+    }
+
     private void testOk(R response) {
         Optional.of(response)
                 .filter(r -> isSuccessfulPredicate.test(r))
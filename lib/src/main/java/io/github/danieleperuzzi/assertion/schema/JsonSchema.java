@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A JSON schema compiled once into a tree of specialized validators, so that checking a response body doesn't
+ * interpret the schema again. Compiled schemas are cached by schema identity: compiling the same schema instance twice
+ * returns the same JsonSchema. The cache doesn't keep schemas alive, still compiling is meant to happen once, so keep
+ * compiled schemas in constants rather than compiling them inside each test. A schema must not be modified after it has
+ * been compiled, the compiled form would not reflect the changes.
+ *
+ * Both the schema and the bodies to be validated are parsed JSON in the form most JSON libraries produce:
+ * {@link Map} for objects, {@link java.util.List} for arrays, {@link CharSequence} for strings, {@link Number},
+ * {@link Boolean} and null.
+ *
+ * The result of the application of this schema would be
+ *
+ * <pre>{@code
+ * static final JsonSchema OK_SCHEMA = JsonSchema.compile(parse("{\"type\": \"object\", \"required\": [\"status\"]}"));
+ *
+ * new ApiAssertion<>(apiResponse)
+ *      .isSuccessful(r -> r.getStatus() == 200)
+ *      .onSuccess(r -> parse(r.getResponseText()), OK_SCHEMA)
+ *      .test();
+ * }</pre>
+ *
+ * Supported keywords are type, enum, const, properties, required, additionalProperties, items, minItems, maxItems,
+ * minLength, maxLength, pattern, minimum, maximum, exclusiveMinimum, exclusiveMaximum, allOf, anyOf, oneOf and not.
+ * Annotations such as title, description, default, examples and format are accepted and not validated, any other
+ * keyword makes compilation fail so that an unsupported constraint never passes silently
+ */
+public final class JsonSchema {
+
+    private static final WeakIdentityCache<Map<String, ?>, JsonSchema> CACHE = new WeakIdentityCache<>();
+
+    private final Validator root;
+
+    private JsonSchema(Validator root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles the given schema or returns the already compiled one if this schema instance has been compiled before.
+     * The schema must not be modified afterwards
+     *
+     * @param schema    the parsed JSON schema
+     * @return          the compiled schema
+     * @throws IllegalArgumentException     exception thrown in case the schema is malformed or uses an unsupported
+     *                                      keyword
+     */
+    public static JsonSchema compile(Map<String, ?> schema) {
+        return CACHE.computeIfAbsent(schema, s -> new JsonSchema(SchemaCompiler.compile(s)));
+    }
+
+    /**
+     * @param body  the parsed JSON body
+     * @return      true if the body satisfies this schema
+     */
+    public boolean isValid(Object body) {
+        return root.isValid(body);
+    }
+
+    /**
+     * Validates the body
+     *
+     * @param body              the parsed JSON body
+     * @throws AssertionError   error thrown in case the body doesn't satisfy this schema, the message describes
+     *                          the first violation found
+     */
+    public void validate(Object body) {
+        if (!root.isValid(body)) {
+            throw new AssertionError(root.violation(body, "$"));
+        }
+    }
+
+    /**
+     * Creates the assertion that validates the body of an API response against this schema, ready to be used as
+     * onSuccess or onFailure assertion
+     *
+     * @param body  the function that extracts the parsed JSON body from the API response
+     * @return      the assertion on the API response
+     * @param <R>   the type of the API response to be tested
+     */
+    public <R> Consumer<R> assertion(Function<R, ?> body) {
+        return response -> validate(body.apply(response));
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a parsed JSON schema into a tree of {@link Validator}. Every keyword is read and resolved here once, so
+ * validators never look at the schema again. Any keyword that is neither supported nor a plain annotation makes
+ * compilation fail: ignoring it would let invalid bodies pass
+ */
+final class SchemaCompiler {
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "type", "enum", "const",
+            "properties", "required", "additionalProperties",
+            "items", "minItems", "maxItems",
+            "minLength", "maxLength", "pattern",
+            "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+            "allOf", "anyOf", "oneOf", "not"));
+
+    // keywords that don't constrain the value, definitions are harmless since $ref is unsupported
+    private static final Set<String> ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "$schema", "$id", "id", "$comment", "title", "description", "default", "examples", "format",
+            "readOnly", "writeOnly", "deprecated", "definitions", "$defs"));
+
+    private SchemaCompiler() {
+    }
+
+    static Validator compile(Object schema) {
+        if (schema instanceof Boolean) {
+            return (Boolean) schema ? Validators.ANY : Validators.NONE;
+        }
+
+        if (!(schema instanceof Map)) {
+            throw new IllegalArgumentException("Schema must be an object or a boolean");
+        }
+
+        Map<?, ?> node = (Map<?, ?>) schema;
+
+        for (Object keyword : node.keySet()) {
+            if (!KEYWORDS.contains(keyword) && !ANNOTATIONS.contains(keyword)) {
+                throw new IllegalArgumentException("Unsupported keyword " + keyword);
+            }
+        }
+
+        if (node.get("items") instanceof List) {
+            throw new IllegalArgumentException("Unsupported keyword items as an array");
+        }
+
+        List<Validator> validators = new ArrayList<>();
+
+        if (node.containsKey("type")) {
+            validators.add(compileType(node.get("type")));
+        }
+
+        if (node.containsKey("enum")) {
+            validators.add(new Validators.AllowedValues(asList(node.get("enum"), "enum").toArray()));
+        }
+
+        if (node.containsKey("const")) {
+            validators.add(new Validators.AllowedValues(new Object[]{node.get("const")}));
+        }
+
+        if (node.containsKey("properties") || node.containsKey("required") || node.containsKey("additionalProperties")) {
+            validators.add(compileObject(node));
+        }
+
+        if (node.containsKey("items") || node.containsKey("minItems") || node.containsKey("maxItems")) {
+            validators.add(new Validators.ArrayItems(
+                    node.containsKey("items") ? compile(node.get("items")) : null,
+                    asCount(node, "minItems", 0),
+                    asCount(node, "maxItems", -1)));
+        }
+
+        if (node.containsKey("minLength") || node.containsKey("maxLength") || node.containsKey("pattern")) {
+            validators.add(new Validators.StringConstraints(
+                    asCount(node, "minLength", 0),
+                    asCount(node, "maxLength", -1),
+                    node.containsKey("pattern") ? Pattern.compile(asString(node.get("pattern"), "pattern")) : null));
+        }
+
+        if (node.containsKey("minimum") || node.containsKey("maximum")
+                || node.containsKey("exclusiveMinimum") || node.containsKey("exclusiveMaximum")) {
+            validators.add(compileNumber(node));
+        }
+
+        if (node.containsKey("allOf")) {
+            validators.add(new Validators.AllOf(compileAll(node.get("allOf"), "allOf")));
+        }
+
+        if (node.containsKey("anyOf")) {
+            validators.add(new Validators.AnyOf(compileAll(node.get("anyOf"), "anyOf")));
+        }
+
+        if (node.containsKey("oneOf")) {
+            validators.add(new Validators.OneOf(compileAll(node.get("oneOf"), "oneOf")));
+        }
+
+        if (node.containsKey("not")) {
+            validators.add(new Validators.Not(compile(node.get("not"))));
+        }
+
+        if (validators.isEmpty()) {
+            return Validators.ANY;
+        }
+
+        return validators.size() == 1 ? validators.get(0) : new Validators.AllOf(validators.toArray(new Validator[0]));
+    }
+
+    private static Validator compileType(Object type) {
+        List<?> names = type instanceof List ? (List<?>) type : Collections.singletonList(type);
+        int mask = 0;
+
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("type must be a string or a non empty array of strings");
+        }
+
+        for (Object name : names) {
+            mask |= typeMask(asString(name, "type"));
+        }
+
+        return new Validators.Type(mask, names.size() == 1 ? String.valueOf(names.get(0)) : names.toString());
+    }
+
+    private static int typeMask(String name) {
+        switch (name) {
+            case "null":
+                return Validators.NULL;
+            case "boolean":
+                return Validators.BOOLEAN;
+            case "object":
+                return Validators.OBJECT;
+            case "array":
+                return Validators.ARRAY;
+            case "string":
+                return Validators.STRING;
+            case "integer":
+                return Validators.INTEGER;
+            case "number":
+                return Validators.NUMBER | Validators.INTEGER;
+            default:
+                throw new IllegalArgumentException("Unknown type " + name);
+        }
+    }
+
+    private static Validator compileObject(Map<?, ?> node) {
+        Map<?, ?> properties = node.containsKey("properties") ? asMap(node.get("properties"), "properties") : Collections.emptyMap();
+        List<?> required = node.containsKey("required") ? asList(node.get("required"), "required") : Collections.emptyList();
+
+        String[] names = new String[properties.size()];
+        Validator[] validators = new Validator[properties.size()];
+        int i = 0;
+
+        for (Map.Entry<?, ?> entry : properties.entrySet()) {
+            names[i] = String.valueOf(entry.getKey());
+            validators[i] = compile(entry.getValue());
+            i++;
+        }
+
+        String[] requiredNames = new String[required.size()];
+
+        for (int j = 0; j < requiredNames.length; j++) {
+            requiredNames[j] = asString(required.get(j), "required");
+        }
+
+        Object additionalProperties = node.get("additionalProperties");
+
+        if (node.containsKey("additionalProperties") && Objects.isNull(additionalProperties)) {
+            throw new IllegalArgumentException("additionalProperties must be an object or a boolean");
+        }
+
+        Validator additional = Objects.isNull(additionalProperties) || Boolean.TRUE.equals(additionalProperties)
+                ? null
+                : compile(additionalProperties);
+
+        return new Validators.ObjectMembers(names, validators, requiredNames, new HashSet<>(Arrays.asList(names)), additional);
+    }
+
+    private static Validator compileNumber(Map<?, ?> node) {
+        Number minimum = asBound(node, "minimum");
+        Number maximum = asBound(node, "maximum");
+        Number exclusiveMinimum = null;
+        Number exclusiveMaximum = null;
+
+        // draft 4 expresses exclusive bounds as a boolean flag on minimum and maximum
+        if (node.get("exclusiveMinimum") instanceof Boolean) {
+            if ((Boolean) node.get("exclusiveMinimum")) {
+                exclusiveMinimum = minimum;
+                minimum = null;
+            }
+        } else {
+            exclusiveMinimum = asBound(node, "exclusiveMinimum");
+        }
+
+        if (node.get("exclusiveMaximum") instanceof Boolean) {
+            if ((Boolean) node.get("exclusiveMaximum")) {
+                exclusiveMaximum = maximum;
+                maximum = null;
+            }
+        } else {
+            exclusiveMaximum = asBound(node, "exclusiveMaximum");
+        }
+
+        return new Validators.NumberRange(minimum, maximum, exclusiveMinimum, exclusiveMaximum);
+    }
+
+    private static Validator[] compileAll(Object schemas, String keyword) {
+        List<?> list = asList(schemas, keyword);
+        Validator[] validators = new Validator[list.size()];
+
+        for (int i = 0; i < validators.length; i++) {
+            validators[i] = compile(list.get(i));
+        }
+
+        return validators;
+    }
+
+    private static Map<?, ?> asMap(Object value, String keyword) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(keyword + " must be an object");
+        }
+
+        return (Map<?, ?>) value;
+    }
+
+    private static List<?> asList(Object value, String keyword) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(keyword + " must be an array");
+        }
+
+        return (List<?>) value;
+    }
+
+    private static String asString(Object value, String keyword) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(keyword + " must be a string");
+        }
+
+        return (String) value;
+    }
+
+    /**
+     * @return  the count defined by the keyword, absent if the keyword isn't defined
+     */
+    private static int asCount(Map<?, ?> node, String keyword, int absent) {
+        if (!node.containsKey(keyword)) {
+            return absent;
+        }
+
+        Object value = node.get(keyword);
+
+        if (!(value instanceof Number) || !Validators.isIntegral((Number) value)
+                || Validators.toBigDecimal((Number) value).signum() < 0) {
+            throw new IllegalArgumentException(keyword + " must be a non-negative integer");
+        }
+
+        // no string or array is longer than Integer.MAX_VALUE, so larger counts behave the same
+        return Validators.toBigDecimal((Number) value).min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+    }
+
+    /**
+     * @return  the bound defined by the keyword, null if the keyword isn't defined
+     */
+    private static Number asBound(Map<?, ?> node, String keyword) {
+        if (!node.containsKey(keyword)) {
+            return null;
+        }
+
+        Object value = node.get(keyword);
+
+        boolean floatingPoint = value instanceof Double || value instanceof Float;
+
+        if (!(value instanceof Number) || (floatingPoint && !Double.isFinite(((Number) value).doubleValue()))) {
+            throw new IllegalArgumentException(keyword + " must be a number");
+        }
+
+        return (Number) value;
+    }
+}
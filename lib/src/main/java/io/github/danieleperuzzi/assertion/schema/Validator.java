@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+/**
+ * A single node of a compiled JSON schema. Every node checks one constraint and holds everything it needs already
+ * resolved, so no schema interpretation takes place at validation time
+ */
+interface Validator {
+
+    /**
+     * Fast path used on every validation, it must not build any message
+     *
+     * @param value     the parsed JSON value
+     * @return          true if the value satisfies the constraint
+     */
+    boolean isValid(Object value);
+
+    /**
+     * Slow path used only once a value has been found invalid, to explain why
+     *
+     * @param value     the parsed JSON value
+     * @param path      the JSON pointer of the value
+     * @return          the description of the first violation found, null if the value is valid
+     */
+    String violation(Object value, String path);
+}
@@ -0,0 +1,697 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The specialized validators a JSON schema is compiled into. Parsed JSON values are expected in the form most JSON
+ * libraries produce: {@link Map} for objects, {@link List} for arrays, {@link CharSequence} for strings,
+ * {@link Number}, {@link Boolean} and null
+ */
+final class Validators {
+
+    static final int NULL = 1;
+    static final int BOOLEAN = 1 << 1;
+    static final int OBJECT = 1 << 2;
+    static final int ARRAY = 1 << 3;
+    static final int STRING = 1 << 4;
+    static final int INTEGER = 1 << 5;
+    static final int NUMBER = 1 << 6;
+
+    static final Validator ANY = new Validator() {
+        @Override
+        public boolean isValid(Object value) {
+            return true;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return null;
+        }
+    };
+
+    static final Validator NONE = new Validator() {
+        @Override
+        public boolean isValid(Object value) {
+            return false;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return path + " is not allowed";
+        }
+    };
+
+    private Validators() {
+    }
+
+    static int typeOf(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+
+        // exact class and abstract class checks come first: a failing instanceof against an interface scans all the
+        // interfaces of the value class, which is slow enough to dominate validation of scalar values
+        Class<?> type = value.getClass();
+
+        if (type == String.class) {
+            return STRING;
+        }
+
+        if (type == Integer.class || type == Long.class) {
+            return INTEGER;
+        }
+
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+
+        if (value instanceof Number) {
+            return isIntegral((Number) value) ? INTEGER : NUMBER;
+        }
+
+        if (value instanceof Map) {
+            return OBJECT;
+        }
+
+        if (value instanceof List) {
+            return ARRAY;
+        }
+
+        if (value instanceof CharSequence) {
+            return STRING;
+        }
+
+        return 0;
+    }
+
+    static boolean isIntegral(Number n) {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte || n instanceof BigInteger) {
+            return true;
+        }
+
+        if (n instanceof BigDecimal) {
+            BigDecimal d = (BigDecimal) n;
+            return d.signum() == 0 || d.scale() <= 0 || d.stripTrailingZeros().scale() <= 0;
+        }
+
+        double d = n.doubleValue();
+        return !Double.isInfinite(d) && d == Math.rint(d);
+    }
+
+    static boolean jsonEquals(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return numberEquals((Number) a, (Number) b);
+        }
+
+        if (a instanceof CharSequence && b instanceof CharSequence) {
+            return a.toString().contentEquals((CharSequence) b);
+        }
+
+        if (a instanceof List && b instanceof List) {
+            List<?> la = (List<?>) a;
+            List<?> lb = (List<?>) b;
+
+            if (la.size() != lb.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < la.size(); i++) {
+                if (!jsonEquals(la.get(i), lb.get(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (a instanceof Map && b instanceof Map) {
+            Map<?, ?> ma = (Map<?, ?>) a;
+            Map<?, ?> mb = (Map<?, ?>) b;
+
+            if (ma.size() != mb.size()) {
+                return false;
+            }
+
+            for (Map.Entry<?, ?> entry : ma.entrySet()) {
+                if (!mb.containsKey(entry.getKey()) || !jsonEquals(entry.getValue(), mb.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return Objects.equals(a, b);
+    }
+
+    private static boolean numberEquals(Number a, Number b) {
+        if (isFloatingPoint(a) || isFloatingPoint(b)) {
+            return a.doubleValue() == b.doubleValue();
+        }
+
+        return compareNumbers(a, b) == 0;
+    }
+
+    /**
+     * Compares numbers by value without losing precision: integers are compared exactly, decimals through
+     * {@link BigDecimal}, and only floating point values fall back to double comparison. NaN is not handled
+     */
+    static int compareNumbers(Number a, Number b) {
+        if (isFloatingPoint(a) || isFloatingPoint(b)) {
+            return Double.compare(a.doubleValue() + 0.0, b.doubleValue() + 0.0);
+        }
+
+        if (isLong(a) && isLong(b)) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+
+        return toBigDecimal(a).compareTo(toBigDecimal(b));
+    }
+
+    private static boolean isFloatingPoint(Number n) {
+        return n instanceof Double || n instanceof Float;
+    }
+
+    private static boolean isLong(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+
+    static BigDecimal toBigDecimal(Number n) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        }
+
+        if (n instanceof BigInteger) {
+            return new BigDecimal((BigInteger) n);
+        }
+
+        if (isLong(n)) {
+            return BigDecimal.valueOf(n.longValue());
+        }
+
+        return new BigDecimal(n.toString());
+    }
+
+    /**
+     * Every validator must be satisfied, used for schema nodes and allOf
+     */
+    static final class AllOf implements Validator {
+
+        private final Validator[] validators;
+
+        AllOf(Validator[] validators) {
+            this.validators = validators;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            for (Validator validator : validators) {
+                if (!validator.isValid(value)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            for (Validator validator : validators) {
+                String violation = validator.violation(value, path);
+
+                if (violation != null) {
+                    return violation;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * At least one validator must be satisfied
+     */
+    static final class AnyOf implements Validator {
+
+        private final Validator[] validators;
+
+        AnyOf(Validator[] validators) {
+            this.validators = validators;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            for (Validator validator : validators) {
+                if (validator.isValid(value)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return isValid(value) ? null : path + " does not match any anyOf schema";
+        }
+    }
+
+    /**
+     * Exactly one validator must be satisfied
+     */
+    static final class OneOf implements Validator {
+
+        private final Validator[] validators;
+
+        OneOf(Validator[] validators) {
+            this.validators = validators;
+        }
+
+        private int matches(Object value) {
+            int matches = 0;
+
+            for (Validator validator : validators) {
+                if (validator.isValid(value) && ++matches > 1) {
+                    break;
+                }
+            }
+
+            return matches;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            return matches(value) == 1;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            int matches = matches(value);
+
+            if (matches == 0) {
+                return path + " does not match any oneOf schema";
+            }
+
+            return matches > 1 ? path + " matches more than one oneOf schema" : null;
+        }
+    }
+
+    /**
+     * The validator must not be satisfied
+     */
+    static final class Not implements Validator {
+
+        private final Validator validator;
+
+        Not(Validator validator) {
+            this.validator = validator;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            return !validator.isValid(value);
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return isValid(value) ? null : path + " must not match the not schema";
+        }
+    }
+
+    /**
+     * Checks the JSON type of the value against a precomputed type mask
+     */
+    static final class Type implements Validator {
+
+        private final int mask;
+        private final String names;
+
+        Type(int mask, String names) {
+            this.mask = mask;
+            this.names = names;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            return (typeOf(value) & mask) != 0;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return isValid(value) ? null : path + " must be of type " + names;
+        }
+    }
+
+    /**
+     * Checks the value is one of the allowed values, used for enum and const
+     */
+    static final class AllowedValues implements Validator {
+
+        private final Object[] allowed;
+
+        AllowedValues(Object[] allowed) {
+            this.allowed = allowed;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            for (Object a : allowed) {
+                if (jsonEquals(a, value)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            return isValid(value) ? null : path + " must be one of " + Arrays.toString(allowed);
+        }
+    }
+
+    /**
+     * Checks the members of a JSON object, non objects are always valid
+     */
+    static final class ObjectMembers implements Validator {
+
+        private final String[] names;
+        private final Validator[] properties;
+        private final String[] required;
+        private final Set<String> declared;
+        private final Validator additional;
+
+        /**
+         * @param names         the declared property names
+         * @param properties    the validators of the declared properties, in the same order of names
+         * @param required      the required property names
+         * @param declared      the declared property names, for fast lookup
+         * @param additional    the validator of the undeclared properties, null when they are always allowed
+         */
+        ObjectMembers(String[] names, Validator[] properties, String[] required, Set<String> declared, Validator additional) {
+            this.names = names;
+            this.properties = properties;
+            this.required = required;
+            this.declared = declared;
+            this.additional = additional;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            if (!(value instanceof Map)) {
+                return true;
+            }
+
+            Map<?, ?> object = (Map<?, ?>) value;
+
+            for (String name : required) {
+                if (!object.containsKey(name)) {
+                    return false;
+                }
+            }
+
+            for (int i = 0; i < names.length; i++) {
+                Object member = object.get(names[i]);
+
+                if ((member != null || object.containsKey(names[i])) && !properties[i].isValid(member)) {
+                    return false;
+                }
+            }
+
+            if (additional != null) {
+                for (Map.Entry<?, ?> entry : object.entrySet()) {
+                    if (!declared.contains(entry.getKey()) && !additional.isValid(entry.getValue())) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+
+            Map<?, ?> object = (Map<?, ?>) value;
+
+            for (String name : required) {
+                if (!object.containsKey(name)) {
+                    return path + "." + name + " is required";
+                }
+            }
+
+            for (int i = 0; i < names.length; i++) {
+                if (object.containsKey(names[i])) {
+                    String violation = properties[i].violation(object.get(names[i]), path + "." + names[i]);
+
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+            }
+
+            if (additional != null) {
+                for (Map.Entry<?, ?> entry : object.entrySet()) {
+                    if (!declared.contains(entry.getKey())) {
+                        String violation = additional.violation(entry.getValue(), path + "." + entry.getKey());
+
+                        if (violation != null) {
+                            return violation;
+                        }
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Checks the items of a JSON array, non arrays are always valid
+     */
+    static final class ArrayItems implements Validator {
+
+        private final Validator items;
+        private final int minItems;
+        private final int maxItems;
+
+        /**
+         * @param items     the validator of every item, null when any item is allowed
+         * @param minItems  the minimum number of items
+         * @param maxItems  the maximum number of items, negative when unbounded
+         */
+        ArrayItems(Validator items, int minItems, int maxItems) {
+            this.items = items;
+            this.minItems = minItems;
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            if (!(value instanceof List)) {
+                return true;
+            }
+
+            List<?> array = (List<?>) value;
+
+            if (array.size() < minItems || (maxItems >= 0 && array.size() > maxItems)) {
+                return false;
+            }
+
+            if (items != null) {
+                for (Object item : array) {
+                    if (!items.isValid(item)) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            if (!(value instanceof List)) {
+                return null;
+            }
+
+            List<?> array = (List<?>) value;
+
+            if (array.size() < minItems) {
+                return path + " must have at least " + minItems + " items";
+            }
+
+            if (maxItems >= 0 && array.size() > maxItems) {
+                return path + " must have at most " + maxItems + " items";
+            }
+
+            if (items != null) {
+                int i = 0;
+
+                for (Object item : array) {
+                    String violation = items.violation(item, path + "[" + i++ + "]");
+
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Checks length and pattern of a JSON string, non strings are always valid. Checking the pattern allocates a
+     * {@link java.util.regex.Matcher}, the only allocation on the valid path
+     */
+    static final class StringConstraints implements Validator {
+
+        private final int minLength;
+        private final int maxLength;
+        private final Pattern pattern;
+
+        /**
+         * @param minLength     the minimum number of code points
+         * @param maxLength     the maximum number of code points, negative when unbounded
+         * @param pattern       the precompiled pattern the string must contain, null when any string is allowed
+         */
+        StringConstraints(int minLength, int maxLength, Pattern pattern) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            if (!(value instanceof CharSequence)) {
+                return true;
+            }
+
+            CharSequence string = (CharSequence) value;
+
+            if (minLength > 0 || maxLength >= 0) {
+                int length = Character.codePointCount(string, 0, string.length());
+
+                if (length < minLength || (maxLength >= 0 && length > maxLength)) {
+                    return false;
+                }
+            }
+
+            return pattern == null || pattern.matcher(string).find();
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            if (isValid(value)) {
+                return null;
+            }
+
+            CharSequence string = (CharSequence) value;
+            int length = Character.codePointCount(string, 0, string.length());
+
+            if (length < minLength) {
+                return path + " must be at least " + minLength + " characters long";
+            }
+
+            if (maxLength >= 0 && length > maxLength) {
+                return path + " must be at most " + maxLength + " characters long";
+            }
+
+            return path + " must match pattern " + pattern.pattern();
+        }
+    }
+
+    /**
+     * Checks the range of a JSON number, non numbers are always valid. Bounds keep the numbers of the schema so that
+     * they are compared without losing precision, absent bounds are null
+     */
+    static final class NumberRange implements Validator {
+
+        private final Number minimum;
+        private final Number maximum;
+        private final Number exclusiveMinimum;
+        private final Number exclusiveMaximum;
+
+        NumberRange(Number minimum, Number maximum, Number exclusiveMinimum, Number exclusiveMaximum) {
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.exclusiveMinimum = exclusiveMinimum;
+            this.exclusiveMaximum = exclusiveMaximum;
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            return !(value instanceof Number) || violation((Number) value) == null;
+        }
+
+        @Override
+        public String violation(Object value, String path) {
+            if (!(value instanceof Number)) {
+                return null;
+            }
+
+            String violation = violation((Number) value);
+
+            return violation == null ? null : path + violation;
+        }
+
+        /**
+         * @return  the violation without the path, null if the number is within the bounds. Messages are built only
+         *          once a bound fails, so the valid path doesn't allocate
+         */
+        private String violation(Number n) {
+            if (n instanceof Double || n instanceof Float) {
+                double d = n.doubleValue();
+
+                // NaN compares false against every bound, and infinity is no JSON number
+                if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    return " must be a finite number";
+                }
+            }
+
+            if (minimum != null && compareNumbers(n, minimum) < 0) {
+                return " must be greater than or equal to " + minimum;
+            }
+
+            if (maximum != null && compareNumbers(n, maximum) > 0) {
+                return " must be less than or equal to " + maximum;
+            }
+
+            if (exclusiveMinimum != null && compareNumbers(n, exclusiveMinimum) <= 0) {
+                return " must be greater than " + exclusiveMinimum;
+            }
+
+            if (exclusiveMaximum != null && compareNumbers(n, exclusiveMaximum) >= 0) {
+                return " must be less than " + exclusiveMaximum;
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A cache keyed by identity that doesn't keep its keys alive: once a key is no longer referenced elsewhere its entry
+ * is dropped. Values must not reference their key, otherwise the entry is never dropped
+ *
+ * @param <K>   the type of the keys
+ * @param <V>   the type of the values
+ */
+final class WeakIdentityCache<K, V> {
+
+    private final Map<IdentityKey, V> entries = new HashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /**
+     * Returns the value cached for the given key instance, computing and caching it if absent
+     *
+     * @param key       the key, compared by identity
+     * @param compute   the function that computes the value of an absent key
+     * @return          the cached value
+     */
+    synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        expunge();
+
+        V value = entries.get(new IdentityKey(key, null));
+
+        if (value == null) {
+            value = compute.apply(key);
+            entries.put(new IdentityKey(key, collected), value);
+        }
+
+        return value;
+    }
+
+    /**
+     * @return  the number of entries whose key is still alive
+     */
+    synchronized int size() {
+        expunge();
+
+        return entries.size();
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+
+        while ((reference = collected.poll()) != null) {
+            entries.remove(reference);
+        }
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        private IdentityKey(Object key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+
+            Object key = get();
+
+            return key != null && key == ((IdentityKey) other).get();
+        }
+    }
+}
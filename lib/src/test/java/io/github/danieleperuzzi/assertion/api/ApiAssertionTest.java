@@ -16,6 +16,7 @@
 
 package io.github.danieleperuzzi.assertion.api;
 
+import io.github.danieleperuzzi.assertion.schema.JsonSchema;
 import io.github.danieleperuzzi.assertion.util.ApiResponseMock;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -23,21 +24,42 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 public class ApiAssertionTest {
 
     private static ApiResponseMock apiResponseOk;
     private static ApiResponseMock apiResponseKo;
+    private static Map<String, Object> statusSchema;
 
     @BeforeAll
     public static void staticSetUp() {
         apiResponseOk = new ApiResponseMock(200, "{\"status\": \"OK\", \"message\": \"response is successful\"}");
         apiResponseKo = new ApiResponseMock(400, "{\"status\": \"KO\", \"message\": \"response is failure\"}");
+
+        statusSchema = new HashMap<>();
+        statusSchema.put("type", "object");
+        statusSchema.put("required", Arrays.asList("status", "message"));
+    }
+
+    private static ApiResponseMock parsedResponse(int status, String statusText, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", statusText);
+
+        if (message != null) {
+            body.put("message", message);
+        }
+
+        return new ApiResponseMock(status, null, body);
     }
 
     @Test
@@ -302,4 +324,51 @@ public class ApiAssertionTest {
         assertEquals(1, testKo400.get());
         assertEquals(0, testKo401.get());
     }
+
+    @Test
+    @DisplayName("check isSuccessfulResponse")
+    public void checkIsSuccessfulResponse() throws Exception {
+        assertTrue(new ApiAssertion<>(apiResponseOk)
+                .isSuccessful(r -> r.getStatus() == 200)
+                .isSuccessfulResponse());
+
+        assertFalse(new ApiAssertion<>(apiResponseKo)
+                .isSuccessful(r -> r.getStatus() == 200)
+                .isSuccessfulResponse());
+
+        Exception exception = assertThrows(Exception.class, () -> {
+            new ApiAssertion<>(apiResponseOk)
+                    .isSuccessfulResponse();
+        });
+
+        assertEquals("Define at least API predicate", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("check onSuccess and conditional onFailure JSON schema")
+    public void checkOnSuccessConditionalOnFailureJsonSchema() throws Exception {
+        JsonSchema schema = JsonSchema.compile(statusSchema);
+
+        new ApiAssertion<>(parsedResponse(200, "OK", "response is successful"))
+                .isSuccessful(r -> r.getStatus() == 200)
+                .onSuccess(ApiResponseMock::getResponseBody, schema)
+                .onFailure(r -> r.getStatus() == 400, ApiResponseMock::getResponseBody, schema)
+                .test();
+
+        new ApiAssertion<>(parsedResponse(400, "KO", "response is failure"))
+                .isSuccessful(r -> r.getStatus() == 200)
+                .onSuccess(ApiResponseMock::getResponseBody, schema)
+                .onFailure(ApiResponseMock::getResponseBody, schema)
+                .test();
+
+        AssertionError error = assertThrows(AssertionError.class, () -> {
+            new ApiAssertion<>(parsedResponse(400, "KO", null))
+                    .isSuccessful(r -> r.getStatus() == 200)
+                    .onSuccess(ApiResponseMock::getResponseBody, schema)
+                    .onFailure(r -> r.getStatus() == 400, ApiResponseMock::getResponseBody, schema)
+                    .test();
+        });
+
+        assertEquals("$.message is required", error.getMessage());
+    }
 }
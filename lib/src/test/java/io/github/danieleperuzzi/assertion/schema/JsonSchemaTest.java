@@ -0,0 +1,276 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonSchemaTest {
+
+    private static Map<String, Object> statusSchema;
+
+    @BeforeAll
+    public static void staticSetUp() {
+        statusSchema = object(
+                "type", "object",
+                "required", Arrays.asList("status", "message"),
+                "properties", object(
+                        "status", object("enum", Arrays.asList("OK", "KO")),
+                        "message", object("type", "string", "minLength", 1),
+                        "code", object("type", "integer", "minimum", 100, "exclusiveMaximum", 600),
+                        "tags", object("type", "array", "items", object("type", "string"), "maxItems", 2)),
+                "additionalProperties", false);
+    }
+
+    static Map<String, Object> object(Object... keyValues) {
+        Map<String, Object> object = new LinkedHashMap<>();
+
+        for (int i = 0; i < keyValues.length; i += 2) {
+            object.put((String) keyValues[i], keyValues[i + 1]);
+        }
+
+        return object;
+    }
+
+    @Test
+    @DisplayName("check compiled schema is cached by identity")
+    public void checkCompiledSchemaCache() {
+        assertSame(JsonSchema.compile(statusSchema), JsonSchema.compile(statusSchema));
+        assertNotSame(JsonSchema.compile(object("type", "string")), JsonSchema.compile(object("type", "string")));
+    }
+
+    @Test
+    @DisplayName("check valid body")
+    public void checkValidBody() {
+        JsonSchema schema = JsonSchema.compile(statusSchema);
+
+        assertTrue(schema.isValid(object("status", "OK", "message", "response is successful")));
+        assertTrue(schema.isValid(object("status", "KO", "message", "response is failure", "code", 400,
+                "tags", Collections.singletonList("client"))));
+        assertTrue(schema.isValid(object("status", "KO", "message", "response is failure", "code", 400.0)));
+    }
+
+    @Test
+    @DisplayName("check invalid body")
+    public void checkInvalidBody() {
+        JsonSchema schema = JsonSchema.compile(statusSchema);
+
+        assertFalse(schema.isValid("OK"));
+        assertFalse(schema.isValid(object("status", "OK")));
+        assertFalse(schema.isValid(object("status", "DONE", "message", "response is successful")));
+        assertFalse(schema.isValid(object("status", "OK", "message", "")));
+        assertFalse(schema.isValid(object("status", "KO", "message", "response is failure", "code", 600)));
+        assertFalse(schema.isValid(object("status", "KO", "message", "response is failure", "code", 400.5)));
+        assertFalse(schema.isValid(object("status", "KO", "message", "response is failure", "tags", Arrays.asList("a", 1))));
+        assertFalse(schema.isValid(object("status", "KO", "message", "response is failure", "tags", Arrays.asList("a", "b", "c"))));
+        assertFalse(schema.isValid(object("status", "OK", "message", "response is successful", "extra", true)));
+    }
+
+    @Test
+    @DisplayName("check violation message")
+    public void checkViolationMessage() {
+        JsonSchema schema = JsonSchema.compile(statusSchema);
+
+        AssertionError error = assertThrows(AssertionError.class, () ->
+                schema.validate(object("status", "OK")));
+
+        assertEquals("$.message is required", error.getMessage());
+
+        error = assertThrows(AssertionError.class, () ->
+                schema.validate(object("status", "KO", "message", "response is failure", "tags", Arrays.asList("a", 1))));
+
+        assertEquals("$.tags[1] must be of type string", error.getMessage());
+
+        error = assertThrows(AssertionError.class, () ->
+                schema.validate(object("status", "OK", "message", "response is successful", "extra", true)));
+
+        assertEquals("$.extra is not allowed", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("check combined schemas")
+    public void checkCombinedSchemas() {
+        JsonSchema anyOf = JsonSchema.compile(object("anyOf", Arrays.asList(object("type", "string"), object("type", "null"))));
+
+        assertTrue(anyOf.isValid("OK"));
+        assertTrue(anyOf.isValid(null));
+        assertFalse(anyOf.isValid(1));
+
+        JsonSchema oneOf = JsonSchema.compile(object("oneOf", Arrays.asList(object("type", "number"), object("type", "integer"))));
+
+        assertTrue(oneOf.isValid(1.5));
+        assertFalse(oneOf.isValid(1));
+
+        JsonSchema not = JsonSchema.compile(object("not", object("pattern", "^KO")));
+
+        assertTrue(not.isValid("OK"));
+        assertFalse(not.isValid("KO 400"));
+    }
+
+    @Test
+    @DisplayName("malformed schema exception")
+    public void malformedSchemaException() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonSchema.compile(object("type", "text")));
+
+        assertEquals("Unknown type text", exception.getMessage());
+
+        assertMalformed("minItems must be a non-negative integer", object("minItems", "3"));
+        assertMalformed("minItems must be a non-negative integer", object("minItems", -1));
+        assertMalformed("maxLength must be a non-negative integer", object("maxLength", 1.5));
+        assertMalformed("minimum must be a number", object("minimum", "0"));
+        assertMalformed("exclusiveMaximum must be a number", object("exclusiveMaximum", Double.NaN));
+        assertMalformed("additionalProperties must be an object or a boolean", object("additionalProperties", null));
+        assertMalformed("pattern must be a string", object("pattern", 5));
+        assertMalformed("required must be a string", object("required", Arrays.asList("status", 1)));
+        assertMalformed("type must be a string", object("type", Collections.singletonList(null)));
+    }
+
+    private static void assertMalformed(String expectedMessage, Map<String, Object> schema) {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> JsonSchema.compile(schema));
+
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("check counts beyond int range")
+    public void checkLargeCounts() {
+        JsonSchema schema = JsonSchema.compile(object("minItems", 5_000_000_000L));
+
+        assertFalse(schema.isValid(Collections.emptyList()));
+        assertTrue(JsonSchema.compile(object("maxItems", 5_000_000_000L)).isValid(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    @DisplayName("unsupported keyword exception")
+    public void unsupportedKeywordException() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonSchema.compile(object("$ref", "#/definitions/x", "definitions", object("x", object("type", "string")))));
+
+        assertEquals("Unsupported keyword $ref", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonSchema.compile(object("properties", object("price", object("type", "number", "multipleOf", 0.5)))));
+
+        assertEquals("Unsupported keyword multipleOf", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () ->
+                JsonSchema.compile(object("items", Arrays.asList(object("type", "string"), object("type", "integer")))));
+
+        assertEquals("Unsupported keyword items as an array", exception.getMessage());
+
+        assertTrue(JsonSchema.compile(object("title", "status", "type", "string", "format", "date-time")).isValid("OK"));
+    }
+
+    @Test
+    @DisplayName("check enum and const numbers keep precision")
+    public void checkNumbersPrecision() {
+        JsonSchema ids = JsonSchema.compile(object("enum", Collections.singletonList(9007199254740993L)));
+
+        assertTrue(ids.isValid(9007199254740993L));
+        assertFalse(ids.isValid(9007199254740992L));
+        assertTrue(ids.isValid(new BigInteger("9007199254740993")));
+        assertFalse(ids.isValid(new BigInteger("9007199254740992")));
+
+        JsonSchema big = JsonSchema.compile(object("const", new BigInteger("123456789012345678901234567890")));
+
+        assertTrue(big.isValid(new BigDecimal("123456789012345678901234567890.0")));
+        assertFalse(big.isValid(new BigInteger("123456789012345678901234567891")));
+
+        JsonSchema decimal = JsonSchema.compile(object("const", new BigDecimal("0.10")));
+
+        assertTrue(decimal.isValid(new BigDecimal("0.1")));
+        assertFalse(decimal.isValid(new BigDecimal("0.1000000000000000000001")));
+
+        JsonSchema one = JsonSchema.compile(object("const", 1));
+
+        assertTrue(one.isValid(1L));
+        assertTrue(one.isValid(1.0));
+        assertFalse(one.isValid(1.5f));
+    }
+
+    @Test
+    @DisplayName("check bounds keep precision")
+    public void checkBoundsPrecision() {
+        JsonSchema maximum = JsonSchema.compile(object("maximum", 9007199254740992L));
+
+        assertTrue(maximum.isValid(9007199254740992L));
+        assertFalse(maximum.isValid(9007199254740993L));
+        assertFalse(maximum.isValid(new BigInteger("9007199254740993")));
+
+        JsonSchema exclusiveMinimum = JsonSchema.compile(object("exclusiveMinimum", 9007199254740992L));
+
+        assertFalse(exclusiveMinimum.isValid(9007199254740992L));
+        assertTrue(exclusiveMinimum.isValid(9007199254740993L));
+
+        JsonSchema decimal = JsonSchema.compile(object("minimum", new BigDecimal("0.1"), "exclusiveMaximum", new BigDecimal("0.3")));
+
+        assertTrue(decimal.isValid(new BigDecimal("0.10")));
+        assertFalse(decimal.isValid(new BigDecimal("0.0999999999999999999999")));
+        assertTrue(decimal.isValid(new BigDecimal("0.2999999999999999999999")));
+        assertFalse(decimal.isValid(new BigDecimal("0.3")));
+
+        JsonSchema draft4 = JsonSchema.compile(object("minimum", 0, "exclusiveMinimum", true));
+
+        assertFalse(draft4.isValid(0));
+        assertTrue(draft4.isValid(1));
+    }
+
+    @Test
+    @DisplayName("check bounds reject non finite numbers")
+    public void checkBoundsNonFinite() {
+        JsonSchema schema = JsonSchema.compile(object("minimum", 0));
+
+        assertFalse(schema.isValid(Double.NaN));
+        assertFalse(schema.isValid(Double.POSITIVE_INFINITY));
+        assertFalse(schema.isValid(Float.NaN));
+        assertTrue(schema.isValid(0.5));
+
+        AssertionError error = assertThrows(AssertionError.class, () -> schema.validate(Double.NaN));
+
+        assertEquals("$ must be a finite number", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("check linked list items and pattern")
+    public void checkLinkedListItemsAndPattern() {
+        JsonSchema schema = JsonSchema.compile(object("items", object("pattern", "^[A-Z]{2}$")));
+
+        assertTrue(schema.isValid(new LinkedList<>(Arrays.asList("OK", "KO"))));
+        assertFalse(schema.isValid(new LinkedList<>(Arrays.asList("OK", "K0"))));
+
+        AssertionError error = assertThrows(AssertionError.class, () ->
+                schema.validate(new LinkedList<>(Arrays.asList("OK", "KO", "no"))));
+
+        assertEquals("$[2] must match pattern ^[A-Z]{2}$", error.getMessage());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 Daniele Peruzzi. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.danieleperuzzi.assertion.schema;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class WeakIdentityCacheTest {
+
+    @Test
+    @DisplayName("check keys are compared by identity")
+    public void checkIdentity() {
+        WeakIdentityCache<Map<String, Object>, Object> cache = new WeakIdentityCache<>();
+        Map<String, Object> key = new HashMap<>();
+        Map<String, Object> equalKey = new HashMap<>();
+
+        Object value = cache.computeIfAbsent(key, k -> new Object());
+
+        assertSame(value, cache.computeIfAbsent(key, k -> new Object()));
+        assertNotSame(value, cache.computeIfAbsent(equalKey, k -> new Object()));
+        assertEquals(2, cache.size());
+
+        // keeps both keys reachable until the size has been checked
+        assertEquals(key, equalKey);
+    }
+}
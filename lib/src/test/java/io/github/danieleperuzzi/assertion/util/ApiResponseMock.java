@@ -20,10 +20,16 @@ public class ApiResponseMock {
 
     private int status;
     private String responseText;
+    private Object responseBody;
 
     public ApiResponseMock(int status, String responseText) {
+        this(status, responseText, null);
+    }
+
+    public ApiResponseMock(int status, String responseText, Object responseBody) {
         this.status = status;
         this.responseText = responseText;
+        this.responseBody = responseBody;
     }
 
     public int getStatus() {
@@ -33,4 +39,8 @@ public class ApiResponseMock {
     public String getResponseText() {
         return responseText;
     }
+
+    public Object getResponseBody() {
+        return responseBody;
+    }
 }